@@ -1,5 +1,6 @@
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.transformation.FilteredList;
 import javafx.scene.Scene;
@@ -12,9 +13,19 @@ import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import java.util.Optional;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.HashMap;
 import java.util.Map;
 import javafx.stage.DirectoryChooser;
@@ -22,6 +33,14 @@ import javafx.stage.FileChooser;
 
 public class AdbJavaFX extends Application {
 
+    // Upper bound on devices listed or pulled from at the same time in the fleet view
+    private static final int FLEET_MAX_PARALLEL = 8;
+
+    private final File appDataDir = new File(System.getProperty("user.home"), ".adbjavafx");
+    private ArtifactStore artifactStore;
+
+    private record FleetEntry(String device, String path, String status) {}
+
     private String selectedDevice = null;
     private ListView<String> fileList;
     private FilteredList<String> filteredItems;
@@ -55,6 +74,13 @@ public class AdbJavaFX extends Application {
 
     @Override
     public void start(Stage stage) {
+        // Pulled files are cached here; size limit can be overridden with -Dadbjavafx.store.maxBytes
+        artifactStore = new ArtifactStore(
+                new File(appDataDir, "store"),
+                Long.getLong("adbjavafx.store.maxBytes", ArtifactStore.DEFAULT_MAX_BYTES),
+                this::runAdbCommand
+        );
+
         // Create a horizontal split layout
         BorderPane root = new BorderPane();
         root.setPadding(new Insets(10));
@@ -93,12 +119,23 @@ public class AdbJavaFX extends Application {
         });
         buttonBox.getChildren().add(installApkBtn);
 
+        // Add Fleet listing button
+        Button fleetBtn = new Button("Fleet Listing Diff");
+        fleetBtn.setMaxWidth(Double.MAX_VALUE);
+        fleetBtn.setOnAction(e -> openFleetListing());
+        buttonBox.getChildren().add(fleetBtn);
+
         // Add Pull and Exit buttons
         Button pullBtn = new Button("Pull Selected Files");
         pullBtn.setMaxWidth(Double.MAX_VALUE);
         pullBtn.setOnAction(e -> pullSelectedFiles());
         buttonBox.getChildren().add(pullBtn);
 
+        Button storeStatsBtn = new Button("Artifact Store Stats");
+        storeStatsBtn.setMaxWidth(Double.MAX_VALUE);
+        storeStatsBtn.setOnAction(e -> showAlert(artifactStore.describeStats()));
+        buttonBox.getChildren().add(storeStatsBtn);
+
         Button exitBtn = new Button("Exit");
         exitBtn.setMaxWidth(Double.MAX_VALUE);
         exitBtn.setOnAction(e -> Platform.exit());
@@ -150,10 +187,24 @@ public class AdbJavaFX extends Application {
         });
         pullItem.setOnAction(e -> {
             String selected = fileList.getSelectionModel().getSelectedItem();
-            if (selected != null) {
-                runAdbCommand("adb pull " + selected);
-                showAlert("File pulled.");
+            if (selected == null) return;
+            if (selectedDevice == null && !selectDevice()) {
+                showAlert("No device selected.");
+                return;
             }
+
+            File destinationDir = chooseDestinationDir();
+            if (destinationDir == null) return;
+
+            final String device = selectedDevice;
+            new Thread(() -> {
+                try {
+                    File localFile = artifactStore.pull(device, selected, destinationDir);
+                    Platform.runLater(() -> showAlert("Pulled to: " + localFile.getAbsolutePath()));
+                } catch (IOException ex) {
+                    Platform.runLater(() -> showAlert("Failed to pull " + selected + ": " + ex.getMessage()));
+                }
+            }).start();
         });
         contextMenu.getItems().addAll(copyItem, pullItem);
         fileList.setContextMenu(contextMenu);
@@ -228,6 +279,8 @@ public class AdbJavaFX extends Application {
             runBugreport();
         } else if (command.equals("adb logcat")) {
             startLogcat();
+        } else if (command.startsWith("adb pull ")) {
+            pullRemoteDirectory(command.substring("adb pull ".length()));
         } else {
             List<String> result = runAdbCommand(command);
             Platform.runLater(() -> {
@@ -342,12 +395,11 @@ public class AdbJavaFX extends Application {
         }
 
         // Ask the user to pick a local folder
-        DirectoryChooser chooser = new DirectoryChooser();
-        chooser.setTitle("Select Destination Folder");
-        File destinationDir = chooser.showDialog(null);
+        File destinationDir = chooseDestinationDir();
+        if (destinationDir == null) return;
 
-        if (destinationDir == null || !destinationDir.isDirectory()) {
-            showAlert("Invalid destination folder.");
+        if (selectedDevice == null && !selectDevice()) {
+            showAlert("No device selected.");
             return;
         }
 
@@ -361,24 +413,22 @@ public class AdbJavaFX extends Application {
 
             for (int i = 0; i < total; i++) {
                 String remotePath = selected.get(i);
-                String fileName = new File(remotePath).getName();
-                File localFile = new File(destinationDir, fileName);
-
-                List<String> command = List.of(
-                        "adb", "-s", selectedDevice,
-                        "pull", remotePath, localFile.getAbsolutePath()
-                );
-
-                List<String> result = runAdbCommand(command);
+                String message;
+                try {
+                    File localFile = artifactStore.pull(selectedDevice, remotePath, destinationDir);
+                    message = "Pulled to: " + localFile.getAbsolutePath();
+                } catch (IOException e) {
+                    message = "Failed to pull " + remotePath + ": " + e.getMessage();
+                }
 
                 int percent = (int) ((i + 1) / (double) total * 100);
                 int finalI = i;
-                final File finalLocalFile = localFile;
+                final String finalMessage = message;
                 final int finalPercent = percent;
                 Platform.runLater(() -> {
                     progressBar.setProgress((finalI + 1) / (double) total);
                     progressLabel.setText(finalPercent + "%");
-                    showAlert("Pulled to: " + finalLocalFile.getAbsolutePath());
+                    showAlert(finalMessage);
                 });
             }
 
@@ -389,6 +439,50 @@ public class AdbJavaFX extends Application {
         }).start();
     }
 
+    private void pullRemoteDirectory(String remoteDir) {
+        if (selectedDevice == null && !selectDevice()) {
+            showAlert("No device selected.");
+            return;
+        }
+
+        File destinationDir = chooseDestinationDir();
+        if (destinationDir == null) return;
+
+        final String device = selectedDevice;
+        new Thread(() -> {
+            // Pull file by file so each one goes through the artifact store
+            List<String> files = runAdbCommand(List.of(
+                    "adb", "-s", device, "shell", "find", ArtifactStore.shellQuote(remoteDir), "-type", "f"
+            )).stream().filter(path -> path.startsWith(remoteDir + "/")).toList();
+            if (files.isEmpty()) {
+                Platform.runLater(() -> showAlert("No files found in " + remoteDir + "."));
+                return;
+            }
+
+            File localRoot = new File(destinationDir, new File(remoteDir).getName());
+            int failed = 0;
+            for (int i = 0; i < files.size(); i++) {
+                String remotePath = files.get(i);
+                // Keep the device's folder layout under the destination
+                File localDir = new File(localRoot, remotePath.substring(remoteDir.length() + 1)).getParentFile();
+                localDir.mkdirs();
+                try {
+                    artifactStore.pull(device, remotePath, localDir);
+                } catch (IOException e) {
+                    failed++;
+                    final String message = "Failed to pull " + remotePath + ": " + e.getMessage();
+                    Platform.runLater(() -> logcatOutput.appendText(message + "\n"));
+                }
+                updateProgress(i + 1, files.size());
+            }
+            hideProgress();
+
+            final String summary = "Pulled " + (files.size() - failed) + " of " + files.size() + " file(s) to: "
+                    + localRoot.getAbsolutePath();
+            Platform.runLater(() -> showAlert(summary));
+        }).start();
+    }
+
     private boolean selectDevice() {
         List<String> devices = getConnectedDevices();
 
@@ -670,6 +764,267 @@ public class AdbJavaFX extends Application {
         }).start();
     }
 
+    private void openFleetListing() {
+        List<String> devices = getConnectedDevices();
+        if (devices.isEmpty()) {
+            showAlert("No devices connected.");
+            return;
+        }
+
+        // Only "ls" of an absolute glob yields device paths; "-d" keeps subfolders as single entries
+        Map<String, String> listings = new LinkedHashMap<>();
+        for (String[] cmd : adbCommands) {
+            if (cmd[1].startsWith("adb shell ls /") && cmd[1].contains("*")) {
+                listings.put(cmd[0], cmd[1].replaceFirst(" ls ", " ls -d "));
+            }
+        }
+        List<String> names = new ArrayList<>(listings.keySet());
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(names.get(0), names);
+        dialog.setTitle("Fleet Listing Diff");
+        dialog.setHeaderText("Run a listing on all " + devices.size() + " connected device(s).");
+        dialog.setContentText("Listing:");
+        Optional<String> choice = dialog.showAndWait();
+        if (choice.isEmpty()) return;
+        final String listingName = choice.get();
+        final String listingCommand = listings.get(listingName);
+
+        // The table only ever holds the diff (new and gone entries), never the full listings
+        ObservableList<FleetEntry> entries = FXCollections.observableArrayList();
+        TableView<FleetEntry> table = new TableView<>(entries);
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        TableColumn<FleetEntry, String> deviceCol = new TableColumn<>("Device");
+        deviceCol.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().device()));
+        deviceCol.setPrefWidth(150);
+        TableColumn<FleetEntry, String> pathCol = new TableColumn<>("Path");
+        pathCol.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().path()));
+        pathCol.setPrefWidth(480);
+        TableColumn<FleetEntry, String> statusCol = new TableColumn<>("Status");
+        statusCol.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().status()));
+        statusCol.setPrefWidth(70);
+        table.getColumns().addAll(deviceCol, pathCol, statusCol);
+
+        // Highlight new entries in the Status cell only, so row selection stays visible
+        statusCol.setCellFactory(col -> new TableCell<>() {
+            @Override
+            protected void updateItem(String status, boolean empty) {
+                super.updateItem(status, empty);
+                setText(empty ? null : status);
+                if (!empty && "NEW".equals(status)) {
+                    setStyle("-fx-background-color: #fff3b0; -fx-text-fill: black;");
+                } else {
+                    setStyle("");
+                }
+            }
+        });
+
+        TextArea report = new TextArea("Listing " + devices.size() + " device(s)...\n");
+        report.setEditable(false);
+        report.setPrefRowCount(5);
+
+        Button pullNewBtn = new Button("Pull New Items");
+        pullNewBtn.setOnAction(e -> {
+            // Pull the selected new rows, or every new row when nothing is selected
+            List<FleetEntry> source = table.getSelectionModel().getSelectedItems().isEmpty()
+                    ? entries
+                    : table.getSelectionModel().getSelectedItems();
+            pullFleetEntries(source.stream()
+                    .filter(entry -> entry.status().equals("NEW"))
+                    .toList(), report);
+        });
+
+        VBox layout = new VBox(10, table, report, pullNewBtn);
+        layout.setPadding(new Insets(10));
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        Stage fleetStage = new Stage();
+        fleetStage.setTitle("Fleet Listing Diff - " + listingName);
+        fleetStage.setScene(new Scene(layout, 750, 550));
+        fleetStage.show();
+
+        new Thread(() -> {
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(FLEET_MAX_PARALLEL, devices.size()));
+            AtomicInteger done = new AtomicInteger();
+            List<Future<String>> results = new ArrayList<>();
+            for (String device : devices) {
+                results.add(pool.submit(() -> {
+                    try {
+                        return diffDeviceListing(device, listingName, listingCommand, entries);
+                    } finally {
+                        updateProgress(done.incrementAndGet(), devices.size());
+                    }
+                }));
+            }
+            pool.shutdown();
+
+            for (int i = 0; i < results.size(); i++) {
+                String line;
+                try {
+                    line = results.get(i).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    line = devices.get(i) + ": Error: " + cause.getMessage();
+                }
+                final String finalLine = line;
+                Platform.runLater(() -> report.appendText(finalLine + "\n"));
+            }
+            hideProgress();
+        }).start();
+    }
+
+    private String diffDeviceListing(String device, String listingName, String command,
+                                     ObservableList<FleetEntry> entries) throws IOException, InterruptedException {
+        File snapshot = fleetSnapshotFile(device, listingName);
+        snapshot.getParentFile().mkdirs();
+        boolean baseline = !snapshot.isFile();
+
+        List<String> commandParts = new ArrayList<>(List.of("adb", "-s", device));
+        commandParts.addAll(Arrays.asList(command.substring(4).split(" ")));
+
+        // Snapshots are kept sorted, so the old snapshot and the new listing are merged
+        // as two streams and only the differences are held in memory
+        // Unique per run, so two fleet windows listing the same thing don't share a temp file
+        Path tmpSnapshot = Files.createTempFile(snapshot.getParentFile().toPath(), snapshot.getName(), ".tmp");
+        List<FleetEntry> diff = new ArrayList<>();
+        int total = 0;
+        int newCount = 0;
+        int goneCount = 0;
+        Process process = null;
+        try {
+            try (BufferedReader previous = baseline
+                         ? new BufferedReader(Reader.nullReader())
+                         : Files.newBufferedReader(snapshot.toPath());
+                 BufferedWriter writer = Files.newBufferedWriter(tmpSnapshot)) {
+                process = new ProcessBuilder(commandParts).redirectErrorStream(true).start();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+                String previousLine = previous.readLine();
+                String lastLine = null;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    // stderr is merged in; only absolute paths are listing entries
+                    if (!line.startsWith("/")) continue;
+                    if (lastLine != null) {
+                        int order = line.compareTo(lastLine);
+                        if (order == 0) continue;
+                        if (order < 0) throw new IOException("listing is not sorted, snapshot kept");
+                    }
+                    lastLine = line;
+
+                    while (previousLine != null && previousLine.compareTo(line) < 0) {
+                        diff.add(new FleetEntry(device, previousLine, "GONE"));
+                        goneCount++;
+                        previousLine = previous.readLine();
+                    }
+                    if (line.equals(previousLine)) {
+                        previousLine = previous.readLine();
+                    } else if (!baseline) {
+                        diff.add(new FleetEntry(device, line, "NEW"));
+                        newCount++;
+                    }
+                    writer.write(line);
+                    writer.newLine();
+                    total++;
+                }
+                int exitCode = process.waitFor();
+
+                // An empty failed listing usually means the device dropped off; keep the old snapshot
+                if (exitCode != 0 && total == 0 && !baseline) {
+                    return device + ": no entries (exit code " + exitCode + "), snapshot kept";
+                }
+                while (previousLine != null) {
+                    diff.add(new FleetEntry(device, previousLine, "GONE"));
+                    goneCount++;
+                    previousLine = previous.readLine();
+                }
+            }
+            Files.move(tmpSnapshot, snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            if (process != null && process.isAlive()) {
+                process.destroy();
+            }
+            Files.deleteIfExists(tmpSnapshot);
+        }
+
+        Platform.runLater(() -> entries.addAll(diff));
+        if (baseline) {
+            return device + ": baseline recorded (" + total + " entries)";
+        }
+        return device + ": " + total + " entries, " + newCount + " new, " + goneCount + " gone";
+    }
+
+    private File fleetSnapshotFile(String device, String listingName) {
+        File deviceDir = new File(new File(appDataDir, "snapshots"), sanitizeFileName(device));
+        return new File(deviceDir, sanitizeFileName(listingName) + ".txt");
+    }
+
+    private String sanitizeFileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private void pullFleetEntries(List<FleetEntry> items, TextArea report) {
+        if (items.isEmpty()) {
+            showAlert("No new items to pull.");
+            return;
+        }
+
+        File destinationDir = chooseDestinationDir();
+        if (destinationDir == null) return;
+
+        new Thread(() -> {
+            final int total = items.size();
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(FLEET_MAX_PARALLEL, total));
+            AtomicInteger done = new AtomicInteger();
+            List<Future<File>> results = new ArrayList<>();
+            for (FleetEntry item : items) {
+                results.add(pool.submit(() -> {
+                    try {
+                        // Each device gets its own subfolder so identical names don't collide
+                        File deviceDir = new File(destinationDir, sanitizeFileName(item.device()));
+                        deviceDir.mkdirs();
+                        return artifactStore.pull(item.device(), item.path(), deviceDir);
+                    } finally {
+                        updateProgress(done.incrementAndGet(), total);
+                    }
+                }));
+            }
+            pool.shutdown();
+
+            int failed = 0;
+            for (int i = 0; i < results.size(); i++) {
+                FleetEntry item = items.get(i);
+                try {
+                    results.get(i).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    failed++;
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    final String finalLine = item.device() + ": Failed to pull " + item.path() + ": " + cause.getMessage();
+                    Platform.runLater(() -> report.appendText(finalLine + "\n"));
+                }
+            }
+            hideProgress();
+
+            final String summary = "Pulled " + (total - failed) + " of " + total + " new item(s) to: "
+                    + destinationDir.getAbsolutePath() + (failed > 0 ? " (" + failed + " failed)" : "");
+            Platform.runLater(() -> {
+                report.appendText(summary + "\n");
+                showAlert(summary);
+            });
+        }).start();
+    }
+
+    // Returns null, after telling the user, when no usable folder was picked
+    private File chooseDestinationDir() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Select Destination Folder");
+        File destinationDir = chooser.showDialog(null);
+
+        if (destinationDir == null || !destinationDir.isDirectory()) {
+            showAlert("Invalid destination folder.");
+            return null;
+        }
+        return destinationDir;
+    }
+
     private void updateProgress(final int current, final int total) {
         if (total <= 0) return;
         final double progress = (double) current / total;
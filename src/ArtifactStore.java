@@ -0,0 +1,332 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * Local cache for files pulled from devices.
+ *
+ * Pulls are keyed by device, remote path, size and mtime. The content itself is stored
+ * once per SHA-256 hash and hardlinked into the destination folder, so pulling the same
+ * file again never goes over USB. Stored objects are read-only so a linked copy can't be
+ * edited in place; when that can't be enforced the object is copied instead of linked.
+ */
+public class ArtifactStore {
+
+    public static final long DEFAULT_MAX_BYTES = 20L * 1024 * 1024 * 1024;
+
+    private final File objectsDir;
+    private final File tmpDir;
+    private final File indexFile;
+    private final File statsFile;
+    private final File accessFile;
+    private final long maxBytes;
+    private final Function<List<String>, List<String>> adbRunner;
+
+    // remote key -> content hash
+    private final Properties index = new Properties();
+    // content hash -> last access time, used for LRU eviction
+    private final Properties access = new Properties();
+    private final Properties stats = new Properties();
+    // content hash -> number of pulls currently linking it; eviction skips these
+    private final Map<String, Integer> pinned = new HashMap<>();
+
+    public ArtifactStore(File rootDir, long maxBytes, Function<List<String>, List<String>> adbRunner) {
+        this.objectsDir = new File(rootDir, "objects");
+        this.tmpDir = new File(rootDir, "tmp");
+        this.indexFile = new File(rootDir, "index.properties");
+        this.statsFile = new File(rootDir, "stats.properties");
+        this.accessFile = new File(rootDir, "access.properties");
+        this.maxBytes = maxBytes;
+        this.adbRunner = adbRunner;
+
+        objectsDir.mkdirs();
+        tmpDir.mkdirs();
+        load(index, indexFile);
+        load(access, accessFile);
+        load(stats, statsFile);
+    }
+
+    /**
+     * Pulls {@code remotePath} from {@code device} into {@code destinationDir}, serving it
+     * from the store when an identical file was pulled before. Directories, files that
+     * cannot be stat'ed and files that change while being pulled are not cached.
+     */
+    public File pull(String device, String remotePath, File destinationDir) throws IOException {
+        File localFile = new File(destinationDir, new File(remotePath).getName());
+
+        RemoteFile remote = stat(device, remotePath);
+        if (remote == null || !remote.regular()) {
+            List<String> result = adbRunner.apply(List.of(
+                    "adb", "-s", device, "pull", remotePath, localFile.getAbsolutePath()
+            ));
+            if (!localFile.exists()) {
+                throw new IOException("adb pull failed: " + String.join(" ", result));
+            }
+            return localFile;
+        }
+
+        String key = device + "|" + remotePath + "|" + remote.size() + "|" + remote.mtime();
+        String hash = lookup(key);
+        if (hash != null) {
+            try {
+                linkInto(new File(objectsDir, hash), localFile);
+            } finally {
+                unpin(hash);
+            }
+            synchronized (this) {
+                addStat("bytesSaved", remote.size());
+                saveQuietly();
+            }
+            return localFile;
+        }
+
+        File tmp = File.createTempFile("pull", ".part", tmpDir);
+        try {
+            List<String> result = adbRunner.apply(List.of(
+                    "adb", "-s", device, "pull", remotePath, tmp.getAbsolutePath()
+            ));
+            RemoteFile after = stat(device, remotePath);
+            if (!remote.equals(after)) {
+                // Still being written (e.g. live modem logs); hand over this copy without caching it
+                if (tmp.length() == 0 && remote.size() > 0) {
+                    throw new IOException("adb pull failed: " + String.join(" ", result));
+                }
+                Files.deleteIfExists(localFile.toPath());
+                Files.move(tmp.toPath(), localFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                return localFile;
+            }
+            if (tmp.length() != remote.size()) {
+                throw new IOException("Pulled " + tmp.length() + " of " + remote.size() + " bytes: "
+                        + String.join(" ", result));
+            }
+            hash = sha256(tmp);
+            synchronized (this) {
+                File object = new File(objectsDir, hash);
+                if (object.isFile()) {
+                    // Same content already stored under a different device or path
+                    addStat("bytesDeduplicated", remote.size());
+                } else {
+                    Files.move(tmp.toPath(), object.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    object.setReadOnly();
+                }
+                index.setProperty(key, hash);
+                touch(hash);
+                pin(hash);
+                evict();
+                saveQuietly();
+            }
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        try {
+            linkInto(new File(objectsDir, hash), localFile);
+        } finally {
+            unpin(hash);
+        }
+        return localFile;
+    }
+
+    public synchronized String describeStats() {
+        File[] objects = objectsDir.listFiles(File::isFile);
+        long storedBytes = 0;
+        long linkedBytes = 0;
+        int count = 0;
+        if (objects != null) {
+            count = objects.length;
+            for (File f : objects) {
+                storedBytes += f.length();
+                if (linkCount(f) > 1) {
+                    linkedBytes += f.length();
+                }
+            }
+        }
+        return "Objects: " + count + "\n"
+                + "Stored: " + formatBytes(storedBytes) + " of " + formatBytes(maxBytes) + "\n"
+                + "  of which " + formatBytes(linkedBytes) + " is also hardlinked into destination folders;\n"
+                + "  that space is only freed once those copies are deleted too\n"
+                + "Saved over USB: " + formatBytes(getStat("bytesSaved")) + "\n"
+                + "Deduplicated: " + formatBytes(getStat("bytesDeduplicated"));
+    }
+
+    private record RemoteFile(long size, long mtime, boolean regular) {}
+
+    /**
+     * Quotes {@code path} for the device shell; adb joins shell arguments with spaces
+     * and the device parses them again.
+     */
+    public static String shellQuote(String path) {
+        return "'" + path.replace("'", "'\\''") + "'";
+    }
+
+    // Returns null when the file can't be stat'ed (missing, device offline, no permission)
+    private RemoteFile stat(String device, String remotePath) {
+        List<String> result = adbRunner.apply(List.of(
+                "adb", "-s", device, "shell", "stat", "-c", "%s:%Y:%F", shellQuote(remotePath)
+        ));
+        for (String line : result) {
+            String[] parts = line.split(":", 3);
+            if (parts.length == 3) {
+                try {
+                    return new RemoteFile(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                            parts[2].startsWith("regular"));
+                } catch (NumberFormatException ignored) {}
+            }
+        }
+        return null;
+    }
+
+    private synchronized String lookup(String key) {
+        String hash = index.getProperty(key);
+        if (hash == null) return null;
+        if (!new File(objectsDir, hash).isFile()) {
+            index.remove(key);
+            return null;
+        }
+        touch(hash);
+        pin(hash);
+        return hash;
+    }
+
+    private synchronized void pin(String hash) {
+        pinned.merge(hash, 1, Integer::sum);
+    }
+
+    private synchronized void unpin(String hash) {
+        pinned.computeIfPresent(hash, (h, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void touch(String hash) {
+        access.setProperty(hash, Long.toString(System.currentTimeMillis()));
+    }
+
+    private long lastAccess(File object) {
+        return Long.parseLong(access.getProperty(object.getName(), "0"));
+    }
+
+    private void linkInto(File object, File localFile) throws IOException {
+        Files.deleteIfExists(localFile.toPath());
+        if (object.canWrite()) {
+            // Read-only can't be enforced (e.g. running as root), so a link could corrupt the store
+            Files.copy(object.toPath(), localFile.toPath());
+            return;
+        }
+        try {
+            Files.createLink(localFile.toPath(), object.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            // Different filesystem or no hardlink support
+            Files.copy(object.toPath(), localFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            localFile.setWritable(true);
+        }
+    }
+
+    // Drops least recently used objects until the store fits in maxBytes
+    private void evict() {
+        File[] objects = objectsDir.listFiles(File::isFile);
+        if (objects == null) return;
+
+        long total = 0;
+        for (File f : objects) {
+            total += f.length();
+        }
+        if (total <= maxBytes) return;
+
+        List<File> candidates = new ArrayList<>(Arrays.asList(objects));
+        candidates.sort(Comparator.comparingLong(this::lastAccess));
+        for (File f : candidates) {
+            if (total <= maxBytes) break;
+            if (pinned.containsKey(f.getName())) continue;
+            long length = f.length();
+            // Read-only files can't be deleted on Windows
+            f.setWritable(true);
+            if (f.delete()) {
+                total -= length;
+                index.values().removeIf(hash -> hash.equals(f.getName()));
+                access.remove(f.getName());
+            } else {
+                f.setReadOnly();
+            }
+        }
+    }
+
+    private static String sha256(File file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(new FileInputStream(file), digest)) {
+                byte[] buffer = new byte[1 << 20];
+                while (in.read(buffer) != -1) {
+                    // reading updates the digest
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private long getStat(String name) {
+        return Long.parseLong(stats.getProperty(name, "0"));
+    }
+
+    private void addStat(String name, long bytes) {
+        stats.setProperty(name, Long.toString(getStat(name) + bytes));
+    }
+
+    private void saveQuietly() {
+        try (OutputStream out = new FileOutputStream(indexFile)) {
+            index.store(out, "ArtifactStore index");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        try (OutputStream out = new FileOutputStream(accessFile)) {
+            access.store(out, "ArtifactStore access times");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        try (OutputStream out = new FileOutputStream(statsFile)) {
+            stats.store(out, "ArtifactStore stats");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static int linkCount(File file) {
+        try {
+            return (Integer) Files.getAttribute(file.toPath(), "unix:nlink");
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            return 1;
+        }
+    }
+
+    private static void load(Properties properties, File file) {
+        if (!file.isFile()) return;
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        String[] units = {"KB", "MB", "GB", "TB"};
+        double value = bytes;
+        int unit = -1;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return String.format("%.1f %s", value, units[unit]);
+    }
+}